@@ -0,0 +1,137 @@
+package com.gridnine.testing.flight;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Построитель составных полётов из набора отдельных сегментов. В отличие от подхода "сначала собрать все
+ * комбинации, затем отфильтровать", этот класс проверяет условия корректности непосредственно во время
+ * построения маршрута, поэтому в результат попадают только полёты, которые прошли бы
+ * {@link com.gridnine.testing.filter.EarlyArrivalSegmentFilter} и
+ * {@link com.gridnine.testing.filter.GroundTimeLimitFilter}
+ */
+public class ItineraryBuilder {
+
+    /**
+     * Настройки по умолчанию. Лимит наземного времени совпадает с лимитом, который
+     * использует {@link com.gridnine.testing.filter.GroundTimeLimitFilter}
+     */
+    private static final Duration DEFAULT_GROUND_TIME_LIMIT = Duration.ofHours(2L);
+    private static final int DEFAULT_MAX_LEGS = 4;
+
+    /**
+     * Суммарное время простоя между сегментами полёта должно быть <b>строго меньше</b> этого значения
+     */
+    private final Duration groundTimeLimit;
+
+    /**
+     * Максимальное количество сегментов в одном построенном полёте
+     */
+    private final int maxLegs;
+
+    /**
+     * Создает новый экземпляр построителя с настройками по умолчанию: не более двух часов
+     * суммарного простоя и не более {@value #DEFAULT_MAX_LEGS} сегментов в одном полёте
+     */
+    public ItineraryBuilder() {
+        this(DEFAULT_GROUND_TIME_LIMIT, DEFAULT_MAX_LEGS);
+    }
+
+    /**
+     * Создает новый экземпляр построителя с указанными ограничениями
+     *
+     * @param groundTimeLimit лимит суммарного времени простоя между сегментами
+     * @param maxLegs         максимальное количество сегментов в одном полёте
+     * @throws IllegalArgumentException если лимит равен {@code null} или отрицателен,
+     *                                  или если {@code maxLegs} меньше единицы
+     */
+    public ItineraryBuilder(Duration groundTimeLimit, int maxLegs) {
+        if (groundTimeLimit == null || groundTimeLimit.isNegative()) {
+            throw new IllegalArgumentException("GroundTimeLimit cannot be null or negative");
+        }
+        if (maxLegs < 1) {
+            throw new IllegalArgumentException("MaxLegs must be positive, but was " + maxLegs);
+        }
+        this.groundTimeLimit = groundTimeLimit;
+        this.maxLegs = maxLegs;
+    }
+
+    /**
+     * Метод строит все корректные полёты из переданного набора сегментов. Сегменты, равные {@code null}, а так же
+     * сегменты, у которых дата вылета не предшествует дате прилета, отбрасываются сразу. Оставшиеся сегменты
+     * упорядочиваются по дате вылета, после чего от каждого из них (параллельно) выполняется поиск в глубину.
+     * Очередной сегмент присоединяется к маршруту, только если он вылетает не раньше прилета предыдущего и
+     * суммарное время простоя остается меньше лимита. Ветви, нарушающие эти условия, не рассматриваются дальше.
+     * Каждый найденный маршрут длиной от одного до {@link #maxLegs} сегментов попадает в результат
+     *
+     * @param segments исходный набор сегментов
+     * @return Список корректных полётов. Если переданный аргумент равен {@code null}, то будет возвращен пустой список
+     */
+    public List<Flight> build(Collection<Segment> segments) {
+        if (segments == null) {
+            return Collections.emptyList();
+        }
+        List<Segment> sorted = segments.stream()
+                .filter(Objects::nonNull)
+                .filter(segment -> segment.getDepartureDate().isBefore(segment.getArrivalDate()))
+                .sorted(Comparator.comparing(Segment::getDepartureDate))
+                .toList();
+        LocalDateTime[] departures = sorted.stream()
+                .map(Segment::getDepartureDate)
+                .toArray(LocalDateTime[]::new);
+
+        return IntStream.range(0, sorted.size()).parallel()
+                .mapToObj(idx -> searchFrom(sorted, departures, idx))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<Flight> searchFrom(List<Segment> sorted, LocalDateTime[] departures, int originIdx) {
+        List<Flight> result = new ArrayList<>();
+        List<Segment> path = new ArrayList<>(maxLegs);
+        path.add(sorted.get(originIdx));
+        search(sorted, departures, path, groundTimeLimit, result);
+        return result;
+    }
+
+    private void search(List<Segment> sorted, LocalDateTime[] departures,
+                        List<Segment> path, Duration remaining, List<Flight> result) {
+        result.add(new Flight(List.copyOf(path)));
+        if (path.size() == maxLegs) {
+            return;
+        }
+        LocalDateTime arrival = path.getLast().getArrivalDate();
+        LocalDateTime deadline = arrival.plus(remaining);   // Вылет в этот момент или позже уже превышает лимит
+
+        for (int idx = firstDepartingNotBefore(departures, arrival);
+             idx < departures.length && departures[idx].isBefore(deadline); idx++) {
+
+            Segment next = sorted.get(idx);
+            path.add(next);
+            search(sorted, departures, path, remaining.minus(Duration.between(arrival, next.getDepartureDate())), result);
+            path.removeLast();
+        }
+    }
+
+    private static int firstDepartingNotBefore(LocalDateTime[] departures, LocalDateTime moment) {
+        int low = 0;
+        int high = departures.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departures[mid].isBefore(moment)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
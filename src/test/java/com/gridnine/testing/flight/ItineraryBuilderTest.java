@@ -0,0 +1,83 @@
+package com.gridnine.testing.flight;
+
+import com.gridnine.testing.filter.EarlyArrivalSegmentFilter;
+import com.gridnine.testing.filter.GroundTimeLimitFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItineraryBuilderTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    @Test
+    public void connectionsTest() {
+        List<Segment> segments = List.of(
+                new Segment(START, START.plusHours(1)),
+                new Segment(START.plusHours(2), START.plusHours(3)),
+                new Segment(START.plusHours(5), START.plusHours(6))
+        );
+        List<Flight> resultFlights = new ItineraryBuilder().build(segments);
+
+        // Три одиночных сегмента и одна пересадка с часом простоя, остальные пересадки превышают лимит
+        assertEquals(4, resultFlights.size());
+        assertTrue(resultFlights.stream().anyMatch(flight -> flight.getSegments().equals(segments.subList(0, 2))));
+    }
+
+    @Test
+    public void invalidSegmentsTest() {
+        List<Segment> segments = List.of(
+                new Segment(START, START.plusHours(1)),
+                new Segment(START.plusHours(2), START.plusHours(1))
+        );
+        List<Flight> resultFlights = new ItineraryBuilder().build(segments);
+
+        assertEquals(1, resultFlights.size());
+        assertEquals(segments.getFirst(), resultFlights.getFirst().getSegments().getFirst());
+    }
+
+    @Test
+    public void maxLegsTest() {
+        List<Segment> segments = List.of(
+                new Segment(START, startPlusMin(1)),
+                new Segment(startPlusMin(2), startPlusMin(3)),
+                new Segment(startPlusMin(4), startPlusMin(5)),
+                new Segment(startPlusMin(6), startPlusMin(7))
+        );
+        List<Flight> resultFlights = new ItineraryBuilder(Duration.ofHours(2L), 2).build(segments);
+
+        assertFalse(resultFlights.isEmpty());
+        assertTrue(resultFlights.stream().allMatch(flight -> flight.getSegments().size() <= 2));
+    }
+
+    @Test
+    public void consistentWithFiltersTest() {
+        List<Segment> segments = List.of(
+                new Segment(START, startPlusMin(30)),
+                new Segment(startPlusMin(60), startPlusMin(90)),
+                new Segment(startPlusMin(120), startPlusMin(150)),
+                new Segment(startPlusMin(150), startPlusMin(100)),
+                new Segment(startPlusMin(180), startPlusMin(210))
+        );
+        List<Flight> resultFlights = new ItineraryBuilder().build(segments);
+
+        assertEquals(resultFlights.size(), new GroundTimeLimitFilter().doFilter(resultFlights).size());
+        assertEquals(resultFlights.size(), new EarlyArrivalSegmentFilter().doFilter(resultFlights).size());
+    }
+
+    @Test
+    public void nullSafeTest() {
+        assertDoesNotThrow(() -> new ItineraryBuilder().build(null));
+        assertThrows(IllegalArgumentException.class, () -> new ItineraryBuilder(null, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ItineraryBuilder(Duration.ofHours(2L), 0));
+    }
+
+    private static LocalDateTime startPlusMin(int minutes) {
+        return START.plusMinutes(minutes);
+    }
+
+}